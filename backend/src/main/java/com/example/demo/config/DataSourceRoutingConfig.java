@@ -0,0 +1,75 @@
+package com.example.demo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+
+/**
+ * Wires the primary pool (spring.datasource.*) and an optional read replica
+ * pool (app.datasource.replica.*) behind a single routing DataSource. Without
+ * a replica URL every query keeps going to the primary, as before.
+ */
+@Configuration
+@EnableScheduling
+public class DataSourceRoutingConfig {
+
+    @Bean
+    public ReplicaHealthMonitor replicaHealthMonitor(Environment environment,
+            @Value("${app.datasource.routing.max-replica-lag-ms:5000}") long maxReplicaLagMillis) {
+        return new ReplicaHealthMonitor(createReplicaPool(environment), maxReplicaLagMillis);
+    }
+
+    @Bean
+    public RoutingDataSource routingDataSource(DataSourceProperties dataSourceProperties,
+            Environment environment, ReplicaHealthMonitor replicaHealthMonitor) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+            .type(HikariDataSource.class)
+            .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary-pool");
+
+        return new RoutingDataSource(primary, replicaHealthMonitor.getReplica(), replicaHealthMonitor);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(RoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    // Package-private and static so tests can build the replica pool exactly as the app does
+    static HikariDataSource createReplicaPool(Environment environment) {
+        Binder binder = Binder.get(environment);
+        DataSourceProperties replicaProperties = binder
+            .bind("app.datasource.replica", DataSourceProperties.class)
+            .orElseGet(DataSourceProperties::new);
+        if (!StringUtils.hasText(replicaProperties.getUrl())) {
+            return null;
+        }
+
+        HikariDataSource replica = replicaProperties.initializeDataSourceBuilder()
+            .type(HikariDataSource.class)
+            .build();
+        // Hikari waits its full connectionTimeout (30 s by default) when the database refuses
+        // connections, and every read would stall that long before falling back to the primary.
+        // Fail fast instead, and let the pool start even while the replica is down.
+        replica.setConnectionTimeout(1500);
+        replica.setValidationTimeout(1000);
+        replica.setInitializationFailTimeout(-1);
+        binder.bind("app.datasource.replica.hikari", Bindable.ofInstance(replica));
+        replica.setPoolName("replica-pool");
+        replica.setReadOnly(true);
+        return replica;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.demo.config;
+
+/**
+ * Per-thread override for {@link RoutingDataSource}. Lets a request pin its
+ * reads to the primary, e.g. right after it ingested a document that the
+ * replica may not have replayed yet.
+ */
+public final class DataSourceRoutingContext {
+
+    private static final ThreadLocal<Boolean> PRIMARY_FORCED = new ThreadLocal<>();
+
+    private DataSourceRoutingContext() {}
+
+    public static void forcePrimary() {
+        PRIMARY_FORCED.set(Boolean.TRUE);
+    }
+
+    public static boolean isPrimaryForced() {
+        return Boolean.TRUE.equals(PRIMARY_FORCED.get());
+    }
+
+    public static void clear() {
+        PRIMARY_FORCED.remove();
+    }
+}
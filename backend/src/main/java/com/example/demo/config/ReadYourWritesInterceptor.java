@@ -0,0 +1,83 @@
+package com.example.demo.config;
+
+import com.example.demo.service.RecentWriteTracker;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Pins a GET request to the primary when it reads a document ingested within
+ * the read-your-writes window, or when the client echoes back the write time
+ * it got from an upload or paste in the {@value #LAST_WRITE_HEADER} header.
+ */
+@Component
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+
+    public static final String LAST_WRITE_HEADER = "X-Last-Write-At";
+
+    @Autowired
+    private RecentWriteTracker recentWriteTracker;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if ("GET".equals(request.getMethod()) && (clientWroteRecently(request) || documentWrittenRecently(request))) {
+            DataSourceRoutingContext.forcePrimary();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        DataSourceRoutingContext.clear();
+    }
+
+    private boolean clientWroteRecently(HttpServletRequest request) {
+        String lastWrite = request.getHeader(LAST_WRITE_HEADER);
+        if (lastWrite == null) {
+            return false;
+        }
+        try {
+            return recentWriteTracker.isWithinWindow(Long.parseLong(lastWrite.trim()));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean documentWrittenRecently(HttpServletRequest request) {
+        Map<String, String> pathVariables =
+            (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (pathVariables != null && isRecentlyWritten(pathVariables.get("documentId"))) {
+            return true;
+        }
+        
+        // Comparisons name their documents in the ids parameter, comma-separated or repeated
+        String[] idValues = request.getParameterValues("ids");
+        if (idValues != null) {
+            for (String idValue : idValues) {
+                for (String id : idValue.split(",")) {
+                    if (isRecentlyWritten(id.trim())) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+    
+    private boolean isRecentlyWritten(String documentId) {
+        if (documentId == null) {
+            return false;
+        }
+        try {
+            return recentWriteTracker.isRecentlyWritten(Long.valueOf(documentId));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.demo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Periodically probes the read replica and records whether it is reachable and
+ * how far behind the primary it is. Reads only go to the replica while it is
+ * up and within the configured lag budget.
+ */
+public class ReplicaHealthMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaHealthMonitor.class);
+
+    // -1 when the standby is in recovery but its WAL receiver is not streaming: replay
+    // has stalled and real lag grows without bound. Otherwise zero on a primary or a
+    // caught-up standby, else the age of the last replayed transaction. Roles without
+    // pg_read_all_stats see a null status, so a running receiver counts as streaming.
+    private static final String LAG_QUERY =
+        "SELECT CASE " +
+        "WHEN NOT pg_is_in_recovery() THEN 0 " +
+        "WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE COALESCE(status, 'streaming') = 'streaming') THEN -1 " +
+        "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+        "ELSE COALESCE(EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) * 1000, 0) " +
+        "END";
+
+    // Tables read by the routed endpoints; a replica missing any of them would fail those reads
+    private static final List<String> PROBED_TABLES = List.of(
+        "documents", "clauses", "document_risk_profiles", "document_risk_profile_categories");
+
+    private final DataSource replica;
+    private final long maxLagMillis;
+
+    private volatile boolean replicaUp;
+    private volatile long lagMillis = -1;
+    private volatile String lastError;
+
+    public ReplicaHealthMonitor(DataSource replica, long maxLagMillis) {
+        this.replica = replica;
+        this.maxLagMillis = maxLagMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.routing.health-check-interval-ms:5000}")
+    public void check() {
+        if (replica == null) {
+            return;
+        }
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement()) {
+            for (String table : PROBED_TABLES) {
+                statement.executeQuery("SELECT 1 FROM " + table + " LIMIT 1").close();
+            }
+
+            long lag;
+            try (ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+                rs.next();
+                lag = Math.round(rs.getDouble(1));
+            }
+            if (lag < 0) {
+                throw new IllegalStateException("Replica is in recovery but not streaming WAL from the primary");
+            }
+            recordLag(lag);
+        } catch (Exception e) {
+            markDown(e);
+        }
+    }
+
+    void recordLag(long lag) {
+        lagMillis = lag;
+        lastError = null;
+        if (!replicaUp) {
+            log.info("Read replica is up (lag {} ms)", lag);
+        }
+        replicaUp = true;
+    }
+
+    public void markDown(Exception cause) {
+        if (replicaUp) {
+            log.warn("Read replica is down, routing reads to primary: {}", cause.getMessage());
+        }
+        replicaUp = false;
+        lastError = cause.getMessage();
+    }
+
+    public DataSource getReplica() { return replica; }
+
+    public boolean isReplicaConfigured() { return replica != null; }
+
+    public boolean isReplicaUp() { return replicaUp; }
+
+    public boolean isReplicaUsable() {
+        return replica != null && replicaUp && lagMillis <= maxLagMillis;
+    }
+
+    public long getLagMillis() { return lagMillis; }
+
+    public long getMaxLagMillis() { return maxLagMillis; }
+
+    public String getLastError() { return lastError; }
+}
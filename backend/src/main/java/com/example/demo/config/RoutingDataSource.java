@@ -0,0 +1,126 @@
+package com.example.demo.config;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+
+/**
+ * Sends read-only transactions to the replica pool and everything else to the
+ * primary. Falls back to the primary whenever the replica is missing, marked
+ * unhealthy by {@link ReplicaHealthMonitor}, or refuses a connection.
+ *
+ * Must sit behind a LazyConnectionDataSourceProxy: the read-only flag of a
+ * transaction is only known after the transaction manager has begun it.
+ */
+public class RoutingDataSource extends AbstractDataSource implements DisposableBean {
+
+    public enum Route { PRIMARY, REPLICA }
+
+    private interface ConnectionSource {
+        Connection open(DataSource dataSource) throws SQLException;
+    }
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaHealthMonitor replicaHealthMonitor;
+
+    public RoutingDataSource(DataSource primary, DataSource replica, ReplicaHealthMonitor replicaHealthMonitor) {
+        this.primary = primary;
+        this.replica = replica;
+        this.replicaHealthMonitor = replicaHealthMonitor;
+    }
+
+    public Route currentRoute() {
+        if (replica == null || DataSourceRoutingContext.isPrimaryForced()) {
+            return Route.PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return Route.PRIMARY;
+        }
+        return replicaHealthMonitor.isReplicaUsable() ? Route.REPLICA : Route.PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection route(ConnectionSource source) throws SQLException {
+        if (currentRoute() != Route.REPLICA) {
+            return source.open(primary);
+        }
+        try {
+            return watchForReplicaFailure(source.open(replica), Connection.class);
+        } catch (SQLException e) {
+            // Replica went away between health checks; serve the read from the primary
+            replicaHealthMonitor.markDown(e);
+            return source.open(primary);
+        }
+    }
+
+    // Proxies a replica connection and the statements it creates so that a query failing because
+    // the replica died marks it down at once; the failing query still throws, but the next reads
+    // go to the primary instead of waiting for the next health check
+    @SuppressWarnings("unchecked")
+    private <T> T watchForReplicaFailure(T target, Class<T> type) {
+        Object proxy = Proxy.newProxyInstance(RoutingDataSource.class.getClassLoader(), new Class<?>[] { type }, (self, method, args) -> {
+            if (method.getName().equals("equals") && args != null && args.length == 1) {
+                return self == args[0];
+            }
+            if (method.getName().equals("hashCode") && (args == null || args.length == 0)) {
+                return System.identityHashCode(self);
+            }
+            try {
+                Object result = method.invoke(target, args);
+                Class<?> returnType = method.getReturnType();
+                if (result != null && returnType.isInterface() && Statement.class.isAssignableFrom(returnType)) {
+                    return watchForReplicaFailure(result, (Class<Object>) returnType);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getTargetException();
+                if (cause instanceof SQLException sqlException && isConnectionFailure(sqlException)) {
+                    replicaHealthMonitor.markDown(sqlException);
+                }
+                throw cause;
+            }
+        });
+        return type.cast(proxy);
+    }
+
+    static boolean isConnectionFailure(SQLException e) {
+        if (e instanceof SQLNonTransientConnectionException || e instanceof SQLTransientConnectionException
+                || e instanceof SQLRecoverableException) {
+            return true;
+        }
+        // 08xxx connection exceptions, and 57P01-57P03 when the server is shutting down or restarting
+        String state = e.getSQLState();
+        return state != null && (state.startsWith("08") || state.startsWith("57P0"));
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        // The pools are owned by this bean rather than registered separately
+        if (replica instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+        if (primary instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
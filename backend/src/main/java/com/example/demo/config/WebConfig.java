@@ -1,13 +1,18 @@
 package com.example.demo.config;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class WebConfig {
 
+    @Autowired
+    private ReadYourWritesInterceptor readYourWritesInterceptor;
+
     @Bean
     public WebMvcConfigurer corsConfigurer() {
         return new WebMvcConfigurer() {
@@ -35,4 +40,14 @@ public class WebConfig {
             }
         };
     }
+
+    @Bean
+    public WebMvcConfigurer readYourWritesConfigurer() {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(readYourWritesInterceptor).addPathPatterns("/api/**");
+            }
+        };
+    }
 }
\ No newline at end of file
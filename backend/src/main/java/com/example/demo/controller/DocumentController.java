@@ -2,20 +2,29 @@ package com.example.demo.controller;
 
 import com.example.demo.entity.Clause;
 import com.example.demo.entity.Document;
+import com.example.demo.entity.DocumentRiskProfile;
 import com.example.demo.repository.ClauseRepository;
 import com.example.demo.repository.DocumentRepository;
+import com.example.demo.repository.DocumentRiskProfileRepository;
+import com.example.demo.service.DocumentIngestService;
 import com.example.demo.service.DocumentProcessingService;
+import com.example.demo.service.RecentWriteTracker;
+import com.example.demo.service.RiskProfileService;
 import com.example.demo.service.TextAnalysisService;
 import org.apache.tika.exception.TikaException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 
 @RestController
@@ -23,6 +32,9 @@ import java.util.Optional;
 // @CrossOrigin(origins = "http://localhost:5173")
 public class DocumentController {
 
+    // Raw ids accepted by /compare before deduplication
+    private static final int MAX_REQUESTED_IDS = 100;
+
     @Autowired
     private DocumentRepository documentRepository;
     
@@ -34,6 +46,15 @@ public class DocumentController {
     
     @Autowired
     private DocumentProcessingService documentProcessingService;
+    
+    @Autowired
+    private DocumentIngestService documentIngestService;
+    
+    @Autowired
+    private RiskProfileService riskProfileService;
+    
+    @Autowired
+    private RecentWriteTracker recentWriteTracker;
 
     @PostMapping("/upload")
     public ResponseEntity<Map<String, Object>> uploadFile(@RequestParam("file") MultipartFile file) {
@@ -63,27 +84,18 @@ public class DocumentController {
                     .body(Map.of("error", "No readable text found in the uploaded file"));
             }
             
-            // Create and save document
-            Document document = new Document(file.getOriginalFilename(), content);
-            document = documentRepository.save(document);
-            
-            // Analyze document and save clauses
-            List<Clause> clauses = textAnalysisService.analyzeDocument(document);
-            if (!clauses.isEmpty()) {
-                clauseRepository.saveAll(clauses);
-            }
-            
-            long highRiskCount = clauses.stream()
-                .mapToLong(clause -> clause.getRiskScore() >= 0.7 ? 1 : 0)
-                .sum();
+            // Save document, clauses and risk profile in one transaction
+            DocumentRiskProfile profile = documentIngestService.ingest(file.getOriginalFilename(), content);
+            long writtenAt = recentWriteTracker.recordWrite(profile.getDocumentId());
             
             Map<String, Object> response = new HashMap<>();
-            response.put("documentId", document.getId());
+            response.put("documentId", profile.getDocumentId());
             response.put("filename", file.getOriginalFilename());
             response.put("fileType", documentProcessingService.getFileTypeDescription(file));
-            response.put("clausesFound", clauses.size());
-            response.put("highRiskClauses", highRiskCount);
+            response.put("clausesFound", profile.getClauseCount());
+            response.put("highRiskClauses", profile.getHighRiskCount());
             response.put("contentLength", content.length());
+            response.put("writtenAt", writtenAt);
             
             return ResponseEntity.ok(response);
             
@@ -110,25 +122,16 @@ public class DocumentController {
                     .body(Map.of("error", "Text is too short. Please paste a complete terms and conditions document."));
             }
             
-            // Create and save document
-            Document document = new Document("Pasted Text", content);
-            document = documentRepository.save(document);
-            
-            // Analyze document and save clauses
-            List<Clause> clauses = textAnalysisService.analyzeDocument(document);
-            if (!clauses.isEmpty()) {
-                clauseRepository.saveAll(clauses);
-            }
-            
-            long highRiskCount = clauses.stream()
-                .mapToLong(clause -> clause.getRiskScore() >= 0.7 ? 1 : 0)
-                .sum();
+            // Save document, clauses and risk profile in one transaction
+            DocumentRiskProfile profile = documentIngestService.ingest("Pasted Text", content);
+            long writtenAt = recentWriteTracker.recordWrite(profile.getDocumentId());
             
             Map<String, Object> response = new HashMap<>();
-            response.put("documentId", document.getId());
-            response.put("clausesFound", clauses.size());
-            response.put("highRiskClauses", highRiskCount);
+            response.put("documentId", profile.getDocumentId());
+            response.put("clausesFound", profile.getClauseCount());
+            response.put("highRiskClauses", profile.getHighRiskCount());
             response.put("contentLength", content.length());
+            response.put("writtenAt", writtenAt);
             
             return ResponseEntity.ok(response);
             
@@ -139,6 +142,7 @@ public class DocumentController {
     }
     
     @GetMapping("/{documentId}/clauses")
+    @Transactional(readOnly = true)
     public ResponseEntity<?> getClauses(@PathVariable Long documentId) {
         try {
             Optional<Document> document = documentRepository.findById(documentId);
@@ -155,19 +159,74 @@ public class DocumentController {
         }
     }
     
+    @GetMapping("/{documentId}/risk-profile")
+    @Transactional(readOnly = true)
+    public ResponseEntity<Map<String, Object>> getRiskProfile(@PathVariable Long documentId) {
+        return riskProfileService.getProfile(documentId)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping("/compare")
+    @Transactional(readOnly = true)
+    public ResponseEntity<Map<String, Object>> compareDocuments(@RequestParam List<Long> ids) {
+        // Bound the raw list too, so repeated ids cannot smuggle a huge request past the cap
+        if (ids.size() > MAX_REQUESTED_IDS) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "Too many ids; send at most " + MAX_REQUESTED_IDS));
+        }
+        
+        // Deduplicate once, keeping the caller's order; only this list reaches the query
+        List<Long> documentIds = List.copyOf(new LinkedHashSet<>(ids));
+        if (documentIds.size() < 2) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "Provide at least two different document ids to compare"));
+        }
+        if (documentIds.size() > RiskProfileService.MAX_COMPARED_DOCUMENTS) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "At most " + RiskProfileService.MAX_COMPARED_DOCUMENTS + " documents can be compared at once"));
+        }
+        
+        try {
+            return ResponseEntity.ok(riskProfileService.compare(documentIds));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/ranking")
+    @Transactional(readOnly = true)
+    public ResponseEntity<?> rankByCategory(@RequestParam String category,
+                                            @RequestParam(defaultValue = "20") int limit) {
+        if (!textAnalysisService.getCategories().contains(category)) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "Unknown category. Expected one of " + textAnalysisService.getCategories()));
+        }
+        if (limit < 1 || limit > 100) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "Limit must be between 1 and 100"));
+        }
+        
+        List<DocumentRiskProfileRepository.CategoryRanking> ranking = riskProfileService.rankByCategory(category, limit);
+        return ResponseEntity.ok(ranking);
+    }
+    
     @GetMapping("/{documentId}")
+    @Transactional(readOnly = true)
     public ResponseEntity<Document> getDocument(@PathVariable Long documentId) {
         Optional<Document> document = documentRepository.findById(documentId);
         return document.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
     
     @GetMapping("/high-risk")
+    @Transactional(readOnly = true)
     public ResponseEntity<List<Clause>> getHighRiskClauses(@RequestParam(defaultValue = "0.7") Double minRisk) {
         List<Clause> highRiskClauses = clauseRepository.findHighRiskClauses(minRisk);
         return ResponseEntity.ok(highRiskClauses);
     }
     
     @GetMapping("/stats")
+    @Transactional(readOnly = true)
     public ResponseEntity<Map<String, Object>> getStats() {
         try {
             long totalDocuments = documentRepository.count();
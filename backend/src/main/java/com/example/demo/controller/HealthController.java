@@ -1,5 +1,6 @@
 package com.example.demo.controller;
 
+import com.example.demo.config.ReplicaHealthMonitor;
 import com.example.demo.repository.DocumentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -22,6 +23,9 @@ public class HealthController {
     
     @Autowired
     private DocumentRepository documentRepository;
+    
+    @Autowired
+    private ReplicaHealthMonitor replicaHealthMonitor;
 
     @GetMapping("/status")
     public ResponseEntity<Map<String, Object>> healthCheck() {
@@ -40,6 +44,18 @@ public class HealthController {
                 health.put("databaseError", e.getMessage());
             }
             
+            // Check read replica; reads fall back to the primary while it is not usable
+            if (!replicaHealthMonitor.isReplicaConfigured()) {
+                health.put("replica", "DISABLED");
+            } else {
+                health.put("replica", replicaHealthMonitor.isReplicaUp() ? "UP" : "DOWN");
+                health.put("replicaLagMs", replicaHealthMonitor.getLagMillis());
+                health.put("replicaServingReads", replicaHealthMonitor.isReplicaUsable());
+                if (replicaHealthMonitor.getLastError() != null) {
+                    health.put("replicaError", replicaHealthMonitor.getLastError());
+                }
+            }
+            
             // Check repository
             try {
                 long count = documentRepository.count();
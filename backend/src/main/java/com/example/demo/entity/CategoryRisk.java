@@ -0,0 +1,36 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+@Embeddable
+public class CategoryRisk {
+    @Column(name = "max_score")
+    private Double maxScore = 0.0;
+    
+    @Column(name = "mean_score")
+    private Double meanScore = 0.0;
+    
+    @Column(name = "clause_count")
+    private Integer clauseCount = 0;
+    
+    // Default constructor
+    public CategoryRisk() {}
+    
+    // Fold one more clause score into the running max and mean
+    public void addScore(double score) {
+        clauseCount++;
+        maxScore = Math.max(maxScore, score);
+        meanScore += (score - meanScore) / clauseCount;
+    }
+    
+    // Getters and Setters
+    public Double getMaxScore() { return maxScore; }
+    public void setMaxScore(Double maxScore) { this.maxScore = maxScore; }
+    
+    public Double getMeanScore() { return meanScore; }
+    public void setMeanScore(Double meanScore) { this.meanScore = meanScore; }
+    
+    public Integer getClauseCount() { return clauseCount; }
+    public void setClauseCount(Integer clauseCount) { this.clauseCount = clauseCount; }
+}
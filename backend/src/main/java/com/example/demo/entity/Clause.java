@@ -1,8 +1,10 @@
 package com.example.demo.entity;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import jakarta.persistence.*;
+import java.util.BitSet;
 
 @Entity
 @Table(name = "clauses")
@@ -28,6 +30,11 @@ public class Clause {
     @JsonBackReference
     private Document document;
     
+    // Rules matched during analysis, kept only until the risk profile is built from them
+    @Transient
+    @JsonIgnore
+    private BitSet firedRules;
+    
     // Default constructor
     public Clause() {}
     
@@ -58,4 +65,7 @@ public class Clause {
     
     public Document getDocument() { return document; }
     public void setDocument(Document document) { this.document = document; }
+    
+    public BitSet getFiredRules() { return firedRules; }
+    public void setFiredRules(BitSet firedRules) { this.firedRules = firedRules; }
 }
\ No newline at end of file
@@ -0,0 +1,143 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compact per-document summary computed at ingest, so comparisons and
+ * rankings never have to read the clauses table.
+ */
+@Entity
+@Table(name = "document_risk_profiles")
+public class DocumentRiskProfile {
+    // Risk band thresholds, matching the HIGH/MEDIUM/LOW suggestion labels
+    public static final double HIGH_RISK = 0.7;
+    public static final double MEDIUM_RISK = 0.5;
+    public static final double LOW_RISK = 0.25;
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "document_id", unique = true, nullable = false)
+    private Long documentId;
+    
+    @Column(name = "filename")
+    private String filename;
+    
+    @Column(name = "clause_count")
+    private Integer clauseCount = 0;
+    
+    @Column(name = "max_score")
+    private Double maxScore = 0.0;
+    
+    @Column(name = "high_risk_count")
+    private Integer highRiskCount = 0;
+    
+    @Column(name = "medium_risk_count")
+    private Integer mediumRiskCount = 0;
+    
+    @Column(name = "low_risk_count")
+    private Integer lowRiskCount = 0;
+    
+    @Column(name = "minimal_risk_count")
+    private Integer minimalRiskCount = 0;
+    
+    // BitSet.toByteArray() of the rules that fired; bit positions follow TextAnalysisService's rule order
+    @Column(name = "fired_rules")
+    private byte[] firedRules = new byte[0];
+    
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "document_risk_profile_categories", joinColumns = @JoinColumn(name = "profile_id"))
+    @MapKeyColumn(name = "category")
+    private Map<String, CategoryRisk> categoryRisks = new HashMap<>();
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    // Default constructor
+    public DocumentRiskProfile() {}
+    
+    // Custom constructor
+    public DocumentRiskProfile(Long documentId, String filename) {
+        this.documentId = documentId;
+        this.filename = filename;
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    public void addClause(String category, double score) {
+        clauseCount++;
+        maxScore = Math.max(maxScore, score);
+        categoryRisks.computeIfAbsent(category, c -> new CategoryRisk()).addScore(score);
+        
+        if (score >= HIGH_RISK) {
+            highRiskCount++;
+        } else if (score >= MEDIUM_RISK) {
+            mediumRiskCount++;
+        } else if (score >= LOW_RISK) {
+            lowRiskCount++;
+        } else {
+            minimalRiskCount++;
+        }
+    }
+    
+    public Map<String, Integer> getRiskBands() {
+        Map<String, Integer> bands = new LinkedHashMap<>();
+        bands.put("high", highRiskCount);
+        bands.put("medium", mediumRiskCount);
+        bands.put("low", lowRiskCount);
+        bands.put("minimal", minimalRiskCount);
+        return bands;
+    }
+    
+    public BitSet getFiredRuleSet() { return BitSet.valueOf(firedRules); }
+    public void setFiredRuleSet(BitSet rules) { this.firedRules = rules.toByteArray(); }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public Long getDocumentId() { return documentId; }
+    public void setDocumentId(Long documentId) { this.documentId = documentId; }
+    
+    public String getFilename() { return filename; }
+    public void setFilename(String filename) { this.filename = filename; }
+    
+    public Integer getClauseCount() { return clauseCount; }
+    public void setClauseCount(Integer clauseCount) { this.clauseCount = clauseCount; }
+    
+    public Double getMaxScore() { return maxScore; }
+    public void setMaxScore(Double maxScore) { this.maxScore = maxScore; }
+    
+    public Integer getHighRiskCount() { return highRiskCount; }
+    public void setHighRiskCount(Integer highRiskCount) { this.highRiskCount = highRiskCount; }
+    
+    public Integer getMediumRiskCount() { return mediumRiskCount; }
+    public void setMediumRiskCount(Integer mediumRiskCount) { this.mediumRiskCount = mediumRiskCount; }
+    
+    public Integer getLowRiskCount() { return lowRiskCount; }
+    public void setLowRiskCount(Integer lowRiskCount) { this.lowRiskCount = lowRiskCount; }
+    
+    public Integer getMinimalRiskCount() { return minimalRiskCount; }
+    public void setMinimalRiskCount(Integer minimalRiskCount) { this.minimalRiskCount = minimalRiskCount; }
+    
+    public byte[] getFiredRules() { return firedRules; }
+    public void setFiredRules(byte[] firedRules) { this.firedRules = firedRules; }
+    
+    public Map<String, CategoryRisk> getCategoryRisks() { return categoryRisks; }
+    public void setCategoryRisks(Map<String, CategoryRisk> categoryRisks) { this.categoryRisks = categoryRisks; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    @PrePersist
+    private void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
@@ -2,9 +2,23 @@
 package com.example.demo.repository;
 
 import com.example.demo.entity.Document;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 
 @Repository
 public interface DocumentRepository extends JpaRepository<Document, Long> {
+    
+    // Keyset batches of ids and filenames only, so backfilling never loads document content
+    @Query("SELECT d.id AS id, d.filename AS filename FROM Document d " +
+           "WHERE d.id > :afterId AND d.id NOT IN (SELECT p.documentId FROM DocumentRiskProfile p) ORDER BY d.id")
+    List<DocumentSummary> findWithoutRiskProfile(@Param("afterId") Long afterId, Pageable pageable);
+    
+    interface DocumentSummary {
+        Long getId();
+        String getFilename();
+    }
 }
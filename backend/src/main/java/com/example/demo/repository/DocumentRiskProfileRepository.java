@@ -0,0 +1,37 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.DocumentRiskProfile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DocumentRiskProfileRepository extends JpaRepository<DocumentRiskProfile, Long> {
+    
+    @Query("SELECT p FROM DocumentRiskProfile p LEFT JOIN FETCH p.categoryRisks WHERE p.documentId = :documentId")
+    Optional<DocumentRiskProfile> findByDocumentId(@Param("documentId") Long documentId);
+    
+    @Query("SELECT DISTINCT p FROM DocumentRiskProfile p LEFT JOIN FETCH p.categoryRisks WHERE p.documentId IN :documentIds")
+    List<DocumentRiskProfile> findByDocumentIdIn(@Param("documentIds") Collection<Long> documentIds);
+    
+    // Left join on the category key so documents without clauses in it still rank, with zero risk
+    @Query("SELECT p.documentId AS documentId, p.filename AS filename, " +
+           "COALESCE(c.maxScore, 0.0) AS maxScore, COALESCE(c.meanScore, 0.0) AS meanScore, " +
+           "COALESCE(c.clauseCount, 0) AS clauseCount " +
+           "FROM DocumentRiskProfile p LEFT JOIN p.categoryRisks c ON KEY(c) = :category " +
+           "ORDER BY COALESCE(c.maxScore, 0.0) DESC, COALESCE(c.meanScore, 0.0) DESC, p.documentId")
+    List<CategoryRanking> rankByCategory(@Param("category") String category, Pageable pageable);
+    
+    interface CategoryRanking {
+        Long getDocumentId();
+        String getFilename();
+        Double getMaxScore();
+        Double getMeanScore();
+        Integer getClauseCount();
+    }
+}
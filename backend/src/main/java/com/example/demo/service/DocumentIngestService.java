@@ -0,0 +1,41 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Clause;
+import com.example.demo.entity.Document;
+import com.example.demo.entity.DocumentRiskProfile;
+import com.example.demo.repository.ClauseRepository;
+import com.example.demo.repository.DocumentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+public class DocumentIngestService {
+    
+    @Autowired
+    private DocumentRepository documentRepository;
+    
+    @Autowired
+    private ClauseRepository clauseRepository;
+    
+    @Autowired
+    private TextAnalysisService textAnalysisService;
+    
+    @Autowired
+    private RiskProfileService riskProfileService;
+    
+    // Document, clauses and risk profile commit together, so no document is ever stored without its profile
+    @Transactional
+    public DocumentRiskProfile ingest(String filename, String content) {
+        Document document = documentRepository.save(new Document(filename, content));
+        
+        List<Clause> clauses = textAnalysisService.analyzeDocument(document);
+        if (!clauses.isEmpty()) {
+            clauseRepository.saveAll(clauses);
+        }
+        
+        return riskProfileService.createProfile(document.getId(), document.getFilename(), clauses);
+    }
+}
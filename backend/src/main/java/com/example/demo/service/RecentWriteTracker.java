@@ -0,0 +1,43 @@
+package com.example.demo.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers documents ingested within the read-your-writes window so reads of
+ * them are served by the primary until the replica has had time to catch up.
+ */
+@Service
+public class RecentWriteTracker {
+
+    private final Map<Long, Long> writtenAt = new ConcurrentHashMap<>();
+
+    @Value("${app.datasource.routing.read-your-writes-window-ms:10000}")
+    private long windowMillis;
+
+    // Returns the write time, which clients echo back to keep their own reads on the primary
+    public long recordWrite(Long documentId) {
+        long now = System.currentTimeMillis();
+        writtenAt.put(documentId, now);
+        // Drop expired entries so the map only ever holds the last few seconds of ingests
+        writtenAt.values().removeIf(timestamp -> !isWithinWindow(timestamp, now));
+        return now;
+    }
+
+    public boolean isRecentlyWritten(Long documentId) {
+        Long timestamp = writtenAt.get(documentId);
+        return timestamp != null && isWithinWindow(timestamp);
+    }
+
+    public boolean isWithinWindow(long timestampMillis) {
+        return isWithinWindow(timestampMillis, System.currentTimeMillis());
+    }
+
+    // Client-supplied timestamps from the future are ignored rather than pinning forever
+    private boolean isWithinWindow(long timestampMillis, long now) {
+        return timestampMillis <= now && now - timestampMillis < windowMillis;
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.CategoryRisk;
+import com.example.demo.entity.Clause;
+import com.example.demo.entity.DocumentRiskProfile;
+import com.example.demo.repository.ClauseRepository;
+import com.example.demo.repository.DocumentRepository;
+import com.example.demo.repository.DocumentRiskProfileRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Builds the per-document risk profile at ingest and answers comparisons and
+ * rankings from those profiles alone.
+ */
+@Service
+public class RiskProfileService {
+    
+    private static final Logger log = LoggerFactory.getLogger(RiskProfileService.class);
+    
+    // Upper bound on documents per comparison, to keep the IN query and response small
+    public static final int MAX_COMPARED_DOCUMENTS = 20;
+    
+    @Value("${app.risk-profile.backfill.enabled:true}")
+    private boolean backfillEnabled;
+    
+    @Value("${app.risk-profile.backfill.batch-size:100}")
+    private int backfillBatchSize;
+    
+    @Autowired
+    private DocumentRiskProfileRepository riskProfileRepository;
+    
+    @Autowired
+    private DocumentRepository documentRepository;
+    
+    @Autowired
+    private ClauseRepository clauseRepository;
+    
+    @Autowired
+    private TextAnalysisService textAnalysisService;
+    
+    public DocumentRiskProfile createProfile(Long documentId, String filename, List<Clause> clauses) {
+        DocumentRiskProfile profile = new DocumentRiskProfile(documentId, filename);
+        BitSet firedRules = new BitSet();
+        
+        for (Clause clause : clauses) {
+            profile.addClause(clause.getCategory(), clause.getRiskScore());
+            // Freshly analysed clauses carry their matches; clauses loaded for backfill are matched again
+            BitSet clauseRules = clause.getFiredRules() != null
+                ? clause.getFiredRules()
+                : textAnalysisService.findFiredRules(clause.getClauseText());
+            firedRules.or(clauseRules);
+        }
+        profile.setFiredRuleSet(firedRules);
+        
+        return riskProfileRepository.save(profile);
+    }
+    
+    public Optional<Map<String, Object>> getProfile(Long documentId) {
+        return riskProfileRepository.findByDocumentId(documentId).map(this::describe);
+    }
+    
+    // Expects distinct ids in display order; the controller deduplicates before calling
+    public Map<String, Object> compare(List<Long> documentIds) {
+        Map<Long, DocumentRiskProfile> byDocumentId = new HashMap<>();
+        for (DocumentRiskProfile profile : riskProfileRepository.findByDocumentIdIn(documentIds)) {
+            byDocumentId.put(profile.getDocumentId(), profile);
+        }
+        
+        List<Long> missing = documentIds.stream().filter(id -> !byDocumentId.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            throw new NoSuchElementException("No risk profile for documents " + missing);
+        }
+        
+        // Keep the caller's order so the frontend can lay documents out side by side
+        List<DocumentRiskProfile> profiles = documentIds.stream().map(byDocumentId::get).toList();
+        
+        BitSet commonRules = null;
+        BitSet firedOnce = new BitSet();
+        BitSet firedRepeatedly = new BitSet();
+        Set<String> categories = new TreeSet<>();
+        Map<String, Map<String, Object>> riskiestByCategory = new TreeMap<>();
+        for (DocumentRiskProfile profile : profiles) {
+            BitSet rules = profile.getFiredRuleSet();
+            if (commonRules == null) {
+                commonRules = (BitSet) rules.clone();
+            } else {
+                commonRules.and(rules);
+            }
+            BitSet seenBefore = (BitSet) rules.clone();
+            seenBefore.and(firedOnce);
+            firedRepeatedly.or(seenBefore);
+            firedOnce.or(rules);
+            
+            for (Map.Entry<String, CategoryRisk> entry : profile.getCategoryRisks().entrySet()) {
+                categories.add(entry.getKey());
+                Map<String, Object> riskiest = riskiestByCategory.get(entry.getKey());
+                if (riskiest == null || (Double) riskiest.get("maxScore") < entry.getValue().getMaxScore()) {
+                    riskiestByCategory.put(entry.getKey(), Map.of(
+                        "documentId", profile.getDocumentId(),
+                        "maxScore", entry.getValue().getMaxScore()));
+                }
+            }
+        }
+        
+        List<Map<String, Object>> documents = new ArrayList<>();
+        for (DocumentRiskProfile profile : profiles) {
+            // Rules no other compared document triggers
+            BitSet uniqueRules = profile.getFiredRuleSet();
+            uniqueRules.andNot(firedRepeatedly);
+            
+            Map<String, Object> document = describe(profile);
+            document.put("uniqueRules", textAnalysisService.getRuleNames(uniqueRules));
+            documents.add(document);
+        }
+        
+        Map<String, Object> comparison = new HashMap<>();
+        comparison.put("documents", documents);
+        comparison.put("categories", categories);
+        comparison.put("riskiestByCategory", riskiestByCategory);
+        comparison.put("commonRules", textAnalysisService.getRuleNames(commonRules));
+        return comparison;
+    }
+    
+    public List<DocumentRiskProfileRepository.CategoryRanking> rankByCategory(String category, int limit) {
+        return riskProfileRepository.rankByCategory(category, PageRequest.of(0, limit));
+    }
+    
+    // Documents ingested before profiles existed get one built from their stored clauses.
+    // Runs off the startup thread; a document another instance or an upload profiles first
+    // trips the unique document_id constraint and is simply skipped.
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillMissingProfiles() {
+        if (!backfillEnabled) {
+            return;
+        }
+        
+        long afterId = 0;
+        int created = 0;
+        List<DocumentRepository.DocumentSummary> batch;
+        do {
+            batch = documentRepository.findWithoutRiskProfile(afterId, PageRequest.of(0, backfillBatchSize));
+            for (DocumentRepository.DocumentSummary document : batch) {
+                afterId = document.getId();
+                try {
+                    createProfile(document.getId(), document.getFilename(),
+                        clauseRepository.findByDocumentIdOrderByRiskScoreDesc(document.getId()));
+                    created++;
+                } catch (DataIntegrityViolationException e) {
+                    log.debug("Risk profile for document {} already exists", document.getId());
+                } catch (Exception e) {
+                    log.warn("Risk profile backfill failed for document {}: {}", document.getId(), e.getMessage());
+                }
+            }
+        } while (!batch.isEmpty());
+        
+        if (created > 0) {
+            log.info("Backfilled risk profiles for {} documents", created);
+        }
+    }
+    
+    private Map<String, Object> describe(DocumentRiskProfile profile) {
+        Map<String, Object> description = new HashMap<>();
+        description.put("documentId", profile.getDocumentId());
+        description.put("filename", profile.getFilename());
+        description.put("clauseCount", profile.getClauseCount());
+        description.put("maxScore", profile.getMaxScore());
+        description.put("riskBands", profile.getRiskBands());
+        description.put("categoryRisks", new TreeMap<>(profile.getCategoryRisks()));
+        description.put("firedRules", textAnalysisService.getRuleNames(profile.getFiredRuleSet()));
+        return description;
+    }
+}
@@ -9,66 +9,92 @@ import java.util.regex.Pattern;
 @Service
 public class TextAnalysisService {
     
+    // One risk rule: its bit is the rule's permanent id in stored risk profiles and its key the
+    // name reported for that bit. Never renumber or reuse a bit; retire it and take the next free one.
+    private record RiskRule(int bit, String key, Pattern pattern, double score) {
+        // Compiled once here rather than on every sentence
+        RiskRule(int bit, String key, String regex, double score) {
+            this(bit, key, Pattern.compile(regex, Pattern.CASE_INSENSITIVE), score);
+        }
+    }
+    
+    // Keyword combinations boosted in calculateRiskScore
+    private static final int SELL_DATA_BIT = 0;
+    private static final int CANNOT_OPT_OUT_BIT = 1;
+    
     // Risk keywords and their associated risk scores
-    private final Map<String, Double> riskKeywords = new HashMap<String, Double>() {{
+    private static final List<RiskRule> RISK_RULES = List.of(
         // Data Collection & Usage - High Risk
-        put("collect.*personal data", 0.9);
-        put("share.*third parties", 0.9);
-        put("sell.*information", 0.95);
-        put("location.*tracking", 0.85);
-        put("biometric", 0.9);
-        put("indefinitely", 0.85);
-        put("unlimited", 0.8);
-        put("permanent", 0.8);
-        put("irrevocable", 0.9);
+        new RiskRule(2, "collect_personal_data", "collect.*personal data", 0.9),
+        new RiskRule(3, "share_third_parties", "share.*third parties", 0.9),
+        new RiskRule(4, "sell_information", "sell.*information", 0.95),
+        new RiskRule(5, "location_tracking", "location.*tracking", 0.85),
+        new RiskRule(6, "biometric", "biometric", 0.9),
+        new RiskRule(7, "indefinitely", "indefinitely", 0.85),
+        new RiskRule(8, "unlimited", "unlimited", 0.8),
+        new RiskRule(9, "permanent", "permanent", 0.8),
+        new RiskRule(10, "irrevocable", "irrevocable", 0.9),
         
         // High-risk data sharing
-        put("share.*without.*consent", 0.95);
-        put("transfer.*overseas", 0.8);
-        put("affiliate.*company", 0.7);
-        put("business.*partner", 0.7);
+        new RiskRule(11, "share_without_consent", "share.*without.*consent", 0.95),
+        new RiskRule(12, "transfer_overseas", "transfer.*overseas", 0.8),
+        new RiskRule(13, "affiliate_company", "affiliate.*company", 0.7),
+        new RiskRule(14, "business_partner", "business.*partner", 0.7),
         
         // Tracking - Medium-High Risk
-        put("cookies", 0.6);
-        put("analytics", 0.5);
-        put("advertising", 0.7);
-        put("marketing", 0.6);
-        put("tracking", 0.7);
-        put("behavioral", 0.75);
-        put("cross.*device", 0.8);
-        put("fingerprint", 0.85);
+        new RiskRule(15, "cookies", "cookies", 0.6),
+        new RiskRule(16, "analytics", "analytics", 0.5),
+        new RiskRule(17, "advertising", "advertising", 0.7),
+        new RiskRule(18, "marketing", "marketing", 0.6),
+        new RiskRule(19, "tracking", "tracking", 0.7),
+        new RiskRule(20, "behavioral", "behavioral", 0.75),
+        new RiskRule(21, "cross_device", "cross.*device", 0.8),
+        new RiskRule(22, "fingerprint", "fingerprint", 0.85),
         
         // Rights & Control - High Risk
-        put("cannot.*opt.out", 0.9);
-        put("no.*control", 0.8);
-        put("automatic.*renewal", 0.7);
-        put("no.*refund", 0.75);
-        put("terminate.*account", 0.6);
-        put("suspend.*service", 0.6);
-        put("delete.*account", 0.5);
+        new RiskRule(23, "cannot_opt_out", "cannot.*opt.out", 0.9),
+        new RiskRule(24, "no_control", "no.*control", 0.8),
+        new RiskRule(25, "automatic_renewal", "automatic.*renewal", 0.7),
+        new RiskRule(26, "no_refund", "no.*refund", 0.75),
+        new RiskRule(27, "terminate_account", "terminate.*account", 0.6),
+        new RiskRule(28, "suspend_service", "suspend.*service", 0.6),
+        new RiskRule(29, "delete_account", "delete.*account", 0.5),
         
         // Legal & Liability - Medium-High Risk
-        put("not.*liable", 0.7);
-        put("waive.*rights", 0.85);
-        put("arbitration", 0.6);
-        put("class.*action", 0.65);
-        put("governing.*law", 0.3);
-        put("disclaim.*warranty", 0.7);
-        put("limitation.*liability", 0.6);
+        new RiskRule(30, "not_liable", "not.*liable", 0.7),
+        new RiskRule(31, "waive_rights", "waive.*rights", 0.85),
+        new RiskRule(32, "arbitration", "arbitration", 0.6),
+        new RiskRule(33, "class_action", "class.*action", 0.65),
+        new RiskRule(34, "governing_law", "governing.*law", 0.3),
+        new RiskRule(35, "disclaim_warranty", "disclaim.*warranty", 0.7),
+        new RiskRule(36, "limitation_liability", "limitation.*liability", 0.6),
         
         // Changes & Modifications - Medium Risk
-        put("modify.*terms", 0.5);
-        put("change.*policy", 0.4);
-        put("without.*notice", 0.8);
-        put("sole.*discretion", 0.7);
-        put("at.*any.*time", 0.6);
+        new RiskRule(37, "modify_terms", "modify.*terms", 0.5),
+        new RiskRule(38, "change_policy", "change.*policy", 0.4),
+        new RiskRule(39, "without_notice", "without.*notice", 0.8),
+        new RiskRule(40, "sole_discretion", "sole.*discretion", 0.7),
+        new RiskRule(41, "at_any_time", "at.*any.*time", 0.6),
         
         // Financial & Subscription Terms
-        put("auto.*renew", 0.7);
-        put("recurring.*charge", 0.6);
-        put("cancellation.*fee", 0.8);
-        put("early.*termination", 0.7);
-    }};
+        new RiskRule(42, "auto_renew", "auto.*renew", 0.7),
+        new RiskRule(43, "recurring_charge", "recurring.*charge", 0.6),
+        new RiskRule(44, "cancellation_fee", "cancellation.*fee", 0.8),
+        new RiskRule(45, "early_termination", "early.*termination", 0.7)
+    );
+    
+    // Stable name for every bit, checked at startup so a duplicate bit or key fails fast
+    private static final Map<Integer, String> RULE_NAMES = new HashMap<>();
+    static {
+        RULE_NAMES.put(SELL_DATA_BIT, "sell_data_or_information");
+        RULE_NAMES.put(CANNOT_OPT_OUT_BIT, "cannot_opt_out_combined");
+        for (RiskRule rule : RISK_RULES) {
+            if (RULE_NAMES.containsKey(rule.bit()) || RULE_NAMES.containsValue(rule.key())) {
+                throw new IllegalStateException("Duplicate risk rule bit or key: " + rule);
+            }
+            RULE_NAMES.put(rule.bit(), rule.key());
+        }
+    }
     
     // Category classification keywords
     private final Map<String, String> categoryKeywords = new HashMap<String, String>() {{
@@ -95,7 +121,8 @@ public class TextAnalysisService {
             sentence = sentence.trim();
             if (sentence.length() < 15) continue; // Skip very short sentences
             
-            double riskScore = calculateRiskScore(sentence);
+            BitSet firedRules = findFiredRules(sentence);
+            double riskScore = calculateRiskScore(firedRules);
             if (riskScore > 0.15) { // Lower threshold to catch more concerning clauses
                 String category = categorizeClause(sentence);
                 String suggestion = generateSuggestion(category, riskScore);
@@ -104,6 +131,7 @@ public class TextAnalysisService {
                 String displaySentence = sentence.substring(0, 1).toUpperCase() + sentence.substring(1);
                 
                 Clause clause = new Clause(displaySentence, category, riskScore, suggestion, document);
+                clause.setFiredRules(firedRules);
                 clauses.add(clause);
             }
         }
@@ -115,31 +143,66 @@ public class TextAnalysisService {
         return clauses.size() > 25 ? clauses.subList(0, 25) : clauses;
     }
     
-    private double calculateRiskScore(String text) {
+    // The single place rules are matched: both the risk score and the stored fired-rule bits derive from this
+    public BitSet findFiredRules(String text) {
+        String lowerText = text.toLowerCase();
+        BitSet fired = new BitSet();
+        
+        if (lowerText.contains("sell") && (lowerText.contains("data") || lowerText.contains("information"))) {
+            fired.set(SELL_DATA_BIT);
+        }
+        if (lowerText.contains("cannot") && lowerText.contains("opt")) {
+            fired.set(CANNOT_OPT_OUT_BIT);
+        }
+        
+        for (RiskRule rule : RISK_RULES) {
+            if (rule.pattern().matcher(lowerText).find()) {
+                fired.set(rule.bit());
+            }
+        }
+        return fired;
+    }
+    
+    public List<String> getRuleNames(BitSet rules) {
+        List<String> names = new ArrayList<>();
+        for (int i = rules.nextSetBit(0); i >= 0; i = rules.nextSetBit(i + 1)) {
+            // Bits of retired rules have no name any more and are skipped
+            String name = RULE_NAMES.get(i);
+            if (name != null) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+    
+    public Set<String> getCategories() {
+        Set<String> categories = new TreeSet<>(categoryKeywords.values());
+        categories.add("General Terms");
+        return categories;
+    }
+    
+    private double calculateRiskScore(BitSet firedRules) {
         double maxRisk = 0.0;
+        long concerningPatterns = 0;
         
-        for (Map.Entry<String, Double> entry : riskKeywords.entrySet()) {
-            if (Pattern.compile(entry.getKey(), Pattern.CASE_INSENSITIVE).matcher(text).find()) {
-                maxRisk = Math.max(maxRisk, entry.getValue());
+        for (RiskRule rule : RISK_RULES) {
+            if (firedRules.get(rule.bit())) {
+                maxRisk = Math.max(maxRisk, rule.score());
+                concerningPatterns++;
             }
         }
         
         // Add bonus risk for multiple concerning patterns
-        long concerningPatterns = riskKeywords.keySet().stream()
-            .mapToLong(keyword -> Pattern.compile(keyword, Pattern.CASE_INSENSITIVE)
-                .matcher(text).find() ? 1 : 0)
-            .sum();
-        
         if (concerningPatterns > 1) {
             maxRisk = Math.min(1.0, maxRisk + (concerningPatterns - 1) * 0.1);
         }
         
         // Boost risk for certain high-concern words
-        if (text.contains("sell") && (text.contains("data") || text.contains("information"))) {
+        if (firedRules.get(SELL_DATA_BIT)) {
             maxRisk = Math.max(maxRisk, 0.9);
         }
         
-        if (text.contains("cannot") && text.contains("opt")) {
+        if (firedRules.get(CANNOT_OPT_OUT_BIT)) {
             maxRisk = Math.max(maxRisk, 0.85);
         }
         
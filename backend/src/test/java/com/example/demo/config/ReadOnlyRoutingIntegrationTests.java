@@ -0,0 +1,137 @@
+package com.example.demo.config;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Wires the routing DataSource the way DataSourceRoutingConfig does, against two
+ * in-memory databases, to check that @Transactional(readOnly = true) under
+ * JpaTransactionManager really reaches the replica.
+ */
+@SpringJUnitConfig(ReadOnlyRoutingIntegrationTests.Config.class)
+class ReadOnlyRoutingIntegrationTests {
+
+	@Autowired
+	private RouteProbe routeProbe;
+
+	@Autowired
+	private ReplicaHealthMonitor monitor;
+
+	@AfterEach
+	void tearDown() {
+		DataSourceRoutingContext.clear();
+		monitor.recordLag(0);
+	}
+
+	@Test
+	void readOnlyTransactionUsesReplica() {
+		assertEquals("replica", routeProbe.readOnly());
+	}
+
+	@Test
+	void readWriteTransactionUsesPrimary() {
+		assertEquals("primary", routeProbe.readWrite());
+	}
+
+	@Test
+	void forcedPrimaryWinsOverReadOnly() {
+		DataSourceRoutingContext.forcePrimary();
+		assertEquals("primary", routeProbe.readOnly());
+	}
+
+	@Test
+	void unhealthyReplicaFallsBackToPrimary() {
+		monitor.markDown(new IllegalStateException("replica stopped streaming"));
+		assertEquals("primary", routeProbe.readOnly());
+	}
+
+	static class RouteProbe {
+
+		@PersistenceContext
+		private EntityManager entityManager;
+
+		@Transactional(readOnly = true)
+		public String readOnly() {
+			return currentDatabase();
+		}
+
+		@Transactional
+		public String readWrite() {
+			return currentDatabase();
+		}
+
+		private String currentDatabase() {
+			return (String) entityManager.createNativeQuery("SELECT name FROM route_marker").getSingleResult();
+		}
+	}
+
+	@Configuration
+	@EnableTransactionManagement
+	static class Config {
+
+		private final DataSource primary = markedDatabase("primary");
+		private final DataSource replica = markedDatabase("replica");
+
+		@Bean
+		ReplicaHealthMonitor replicaHealthMonitor() {
+			ReplicaHealthMonitor monitor = new ReplicaHealthMonitor(replica, 5000);
+			monitor.recordLag(0);
+			return monitor;
+		}
+
+		@Bean
+		DataSource dataSource(ReplicaHealthMonitor replicaHealthMonitor) {
+			return new LazyConnectionDataSourceProxy(new RoutingDataSource(primary, replica, replicaHealthMonitor));
+		}
+
+		@Bean
+		LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
+			LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+			factory.setDataSource(dataSource);
+			factory.setPackagesToScan("com.example.demo.entity");
+			factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+			factory.setJpaPropertyMap(Map.of("hibernate.hbm2ddl.auto", "none"));
+			return factory;
+		}
+
+		@Bean
+		PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+			return new JpaTransactionManager(entityManagerFactory);
+		}
+
+		@Bean
+		RouteProbe routeProbe() {
+			return new RouteProbe();
+		}
+
+		private static DataSource markedDatabase(String name) {
+			DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:routing_" + name + ";DB_CLOSE_DELAY=-1");
+			JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+			jdbc.execute("CREATE TABLE IF NOT EXISTS route_marker (name VARCHAR(16))");
+			jdbc.execute("DELETE FROM route_marker");
+			jdbc.update("INSERT INTO route_marker VALUES (?)", name);
+			return dataSource;
+		}
+	}
+}
@@ -0,0 +1,102 @@
+package com.example.demo.config;
+
+import com.example.demo.service.RecentWriteTracker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReadYourWritesInterceptorTests {
+
+	private RecentWriteTracker tracker;
+	private ReadYourWritesInterceptor interceptor;
+
+	@BeforeEach
+	void setUp() {
+		tracker = new RecentWriteTracker();
+		ReflectionTestUtils.setField(tracker, "windowMillis", 10000L);
+		interceptor = new ReadYourWritesInterceptor();
+		ReflectionTestUtils.setField(interceptor, "recentWriteTracker", tracker);
+	}
+
+	@AfterEach
+	void tearDown() {
+		DataSourceRoutingContext.clear();
+	}
+
+	@Test
+	void pinsReadOfRecentlyWrittenDocumentByPathVariable() {
+		tracker.recordWrite(42L);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/documents/42/clauses");
+		request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("documentId", "42"));
+
+		assertTrue(isPinned(request));
+	}
+
+	@Test
+	void leavesOtherDocumentsOnReplica() {
+		tracker.recordWrite(42L);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/documents/7/clauses");
+		request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("documentId", "7"));
+
+		assertFalse(isPinned(request));
+	}
+
+	@Test
+	void pinsComparisonIncludingRecentlyWrittenDocument() {
+		tracker.recordWrite(42L);
+		MockHttpServletRequest commaSeparated = new MockHttpServletRequest("GET", "/api/documents/compare");
+		commaSeparated.setParameter("ids", "7, 42");
+		MockHttpServletRequest repeated = new MockHttpServletRequest("GET", "/api/documents/compare");
+		repeated.setParameter("ids", "7", "42");
+
+		assertTrue(isPinned(commaSeparated));
+		assertTrue(isPinned(repeated));
+	}
+
+	@Test
+	void pinsAnyReadCarryingRecentWriteToken() {
+		long writtenAt = tracker.recordWrite(42L);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/documents/stats");
+		request.addHeader(ReadYourWritesInterceptor.LAST_WRITE_HEADER, String.valueOf(writtenAt));
+
+		assertTrue(isPinned(request));
+	}
+
+	@Test
+	void ignoresStaleFutureOrMalformedTokens() {
+		long now = System.currentTimeMillis();
+		for (String token : new String[] { String.valueOf(now - 60000), String.valueOf(now + 60000), "yesterday" }) {
+			MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/documents/stats");
+			request.addHeader(ReadYourWritesInterceptor.LAST_WRITE_HEADER, token);
+			assertFalse(isPinned(request), token);
+		}
+	}
+
+	@Test
+	void clearsPinAfterCompletion() throws Exception {
+		tracker.recordWrite(42L);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/documents/42");
+		request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("documentId", "42"));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		interceptor.preHandle(request, response, null);
+		interceptor.afterCompletion(request, response, null, null);
+
+		assertFalse(DataSourceRoutingContext.isPrimaryForced());
+	}
+
+	private boolean isPinned(MockHttpServletRequest request) {
+		DataSourceRoutingContext.clear();
+		interceptor.preHandle(request, new MockHttpServletResponse(), null);
+		return DataSourceRoutingContext.isPrimaryForced();
+	}
+}
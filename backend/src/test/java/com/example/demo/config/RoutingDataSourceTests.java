@@ -0,0 +1,145 @@
+package com.example.demo.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RoutingDataSourceTests {
+
+	private DataSource primary;
+	private DataSource replica;
+	private ReplicaHealthMonitor monitor;
+	private RoutingDataSource routing;
+
+	@BeforeEach
+	void setUp() {
+		primary = mock(DataSource.class);
+		replica = mock(DataSource.class);
+		monitor = new ReplicaHealthMonitor(replica, 5000);
+		routing = new RoutingDataSource(primary, replica, monitor);
+	}
+
+	@AfterEach
+	void tearDown() {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+		DataSourceRoutingContext.clear();
+	}
+
+	@Test
+	void writesGoToPrimary() {
+		markReplicaHealthy();
+		assertEquals(RoutingDataSource.Route.PRIMARY, routing.currentRoute());
+	}
+
+	@Test
+	void readOnlyTransactionsGoToHealthyReplica() {
+		markReplicaHealthy();
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		assertEquals(RoutingDataSource.Route.REPLICA, routing.currentRoute());
+	}
+
+	@Test
+	void forcedPrimaryOverridesReadOnly() {
+		markReplicaHealthy();
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		DataSourceRoutingContext.forcePrimary();
+		assertEquals(RoutingDataSource.Route.PRIMARY, routing.currentRoute());
+	}
+
+	@Test
+	void readsFallBackToPrimaryUntilReplicaIsChecked() {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		assertEquals(RoutingDataSource.Route.PRIMARY, routing.currentRoute());
+	}
+
+	@Test
+	void failedReplicaConnectionFallsBackToPrimary() throws SQLException {
+		markReplicaHealthy();
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		Connection primaryConnection = mock(Connection.class);
+		when(primary.getConnection()).thenReturn(primaryConnection);
+		when(replica.getConnection()).thenThrow(new SQLException("connection refused"));
+
+		assertSame(primaryConnection, routing.getConnection());
+		assertFalse(monitor.isReplicaUsable());
+	}
+
+	@Test
+	void withoutReplicaEverythingGoesToPrimary() {
+		RoutingDataSource primaryOnly = new RoutingDataSource(primary, null, new ReplicaHealthMonitor(null, 5000));
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		assertEquals(RoutingDataSource.Route.PRIMARY, primaryOnly.currentRoute());
+	}
+
+	@Test
+	void failedReplicaConnectionWithCredentialsFallsBackToPrimary() throws SQLException {
+		markReplicaHealthy();
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		Connection primaryConnection = mock(Connection.class);
+		when(primary.getConnection("app", "secret")).thenReturn(primaryConnection);
+		when(replica.getConnection("app", "secret")).thenThrow(new SQLException("connection refused"));
+
+		assertSame(primaryConnection, routing.getConnection("app", "secret"));
+		assertFalse(monitor.isReplicaUsable());
+	}
+
+	@Test
+	void laggingReplicaIsNotUsed() {
+		monitor.recordLag(60000);
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		assertEquals(RoutingDataSource.Route.PRIMARY, routing.currentRoute());
+	}
+
+	@Test
+	void replicaDyingMidQueryMarksItDown() throws SQLException {
+		markReplicaHealthy();
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		SQLException shutdown = new SQLException("terminating connection due to administrator command", "57P01");
+		Connection replicaConnection = mock(Connection.class);
+		PreparedStatement statement = mock(PreparedStatement.class);
+		when(replica.getConnection()).thenReturn(replicaConnection);
+		when(replicaConnection.prepareStatement("SELECT 1")).thenReturn(statement);
+		when(statement.executeQuery()).thenThrow(shutdown);
+
+		PreparedStatement routed = routing.getConnection().prepareStatement("SELECT 1");
+
+		assertSame(shutdown, assertThrows(SQLException.class, routed::executeQuery));
+		assertFalse(monitor.isReplicaUsable());
+		assertEquals(RoutingDataSource.Route.PRIMARY, routing.currentRoute());
+	}
+
+	@Test
+	void ordinaryQueryErrorsLeaveReplicaInUse() throws SQLException {
+		markReplicaHealthy();
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		Connection replicaConnection = mock(Connection.class);
+		Statement statement = mock(Statement.class);
+		when(replica.getConnection()).thenReturn(replicaConnection);
+		when(replicaConnection.createStatement()).thenReturn(statement);
+		when(statement.executeQuery("SELECT nope")).thenThrow(new SQLException("syntax error", "42601"));
+
+		Statement routed = routing.getConnection().createStatement();
+
+		assertThrows(SQLException.class, () -> routed.executeQuery("SELECT nope"));
+		assertTrue(monitor.isReplicaUsable());
+	}
+
+	private void markReplicaHealthy() {
+		monitor.recordLag(0);
+	}
+}
@@ -0,0 +1,57 @@
+package com.example.demo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Uses a real pool pointed at a port nothing listens on, built the way the app
+ * builds it, so the fallback is bounded by the pool's connection timeout and
+ * not just by a mocked exception.
+ */
+class UnreachableReplicaTests {
+
+	// Well above the 1.5 s replica connection timeout, well below Hikari's 30 s default
+	private static final Duration MAX_FALLBACK = Duration.ofSeconds(5);
+
+	@AfterEach
+	void tearDown() {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+	}
+
+	@Test
+	void readsFallBackQuicklyWhenReplicaRefusesConnections() throws Exception {
+		MockEnvironment environment = new MockEnvironment()
+			.withProperty("app.datasource.replica.url", "jdbc:h2:tcp://localhost:1/~/unreachable");
+		DataSource primary = new DriverManagerDataSource("jdbc:h2:mem:unreachable_primary;DB_CLOSE_DELAY=-1");
+
+		try (HikariDataSource replica = DataSourceRoutingConfig.createReplicaPool(environment)) {
+			ReplicaHealthMonitor monitor = new ReplicaHealthMonitor(replica, 5000);
+			monitor.recordLag(0);
+			RoutingDataSource routing = new RoutingDataSource(primary, replica, monitor);
+			TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+			long start = System.nanoTime();
+			try (Connection connection = routing.getConnection()) {
+				assertTrue(connection.getMetaData().getURL().startsWith("jdbc:h2:mem:unreachable_primary"));
+			}
+			assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(MAX_FALLBACK) < 0);
+			assertFalse(monitor.isReplicaUsable());
+
+			start = System.nanoTime();
+			monitor.check();
+			assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(MAX_FALLBACK) < 0);
+			assertFalse(monitor.isReplicaUp());
+		}
+	}
+}
@@ -0,0 +1,75 @@
+package com.example.demo.controller;
+
+import com.example.demo.service.RiskProfileService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class DocumentControllerCompareTests {
+
+	private RiskProfileService riskProfileService;
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		riskProfileService = mock(RiskProfileService.class);
+		DocumentController controller = new DocumentController();
+		ReflectionTestUtils.setField(controller, "riskProfileService", riskProfileService);
+		mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+	}
+
+	@Test
+	void duplicateIdsAreCollapsedInCallerOrderBeforeQuerying() throws Exception {
+		when(riskProfileService.compare(List.of(2L, 1L))).thenReturn(Map.of());
+
+		mockMvc.perform(get("/api/documents/compare").param("ids", "2,1,2,2,1"))
+			.andExpect(status().isOk());
+
+		verify(riskProfileService).compare(List.of(2L, 1L));
+	}
+
+	@Test
+	void repeatedSingleIdIsRejected() throws Exception {
+		mockMvc.perform(get("/api/documents/compare").param("ids", "1,1,1"))
+			.andExpect(status().isBadRequest());
+
+		verify(riskProfileService, never()).compare(any());
+	}
+
+	@Test
+	void tooManyDistinctIdsAreRejected() throws Exception {
+		mockMvc.perform(get("/api/documents/compare").param("ids", idRange(1, 21)))
+			.andExpect(status().isBadRequest());
+
+		verify(riskProfileService, never()).compare(any());
+	}
+
+	@Test
+	void oversizedRawListIsRejectedEvenWhenMostlyDuplicates() throws Exception {
+		String ids = "1,2," + IntStream.range(0, 200).mapToObj(i -> "1").collect(Collectors.joining(","));
+
+		mockMvc.perform(get("/api/documents/compare").param("ids", ids))
+			.andExpect(status().isBadRequest());
+
+		verify(riskProfileService, never()).compare(any());
+	}
+
+	private static String idRange(int from, int to) {
+		return IntStream.rangeClosed(from, to).mapToObj(String::valueOf).collect(Collectors.joining(","));
+	}
+}
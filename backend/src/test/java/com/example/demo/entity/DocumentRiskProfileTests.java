@@ -0,0 +1,45 @@
+package com.example.demo.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DocumentRiskProfileTests {
+
+	@Test
+	void aggregatesScoresPerCategoryAndBand() {
+		DocumentRiskProfile profile = new DocumentRiskProfile(1L, "policy.txt");
+		profile.addClause("Data Sharing", 0.9);
+		profile.addClause("Data Sharing", 0.5);
+		profile.addClause("Payment Terms", 0.3);
+		profile.addClause("General Terms", 0.2);
+
+		CategoryRisk sharing = profile.getCategoryRisks().get("Data Sharing");
+		assertEquals(0.9, sharing.getMaxScore(), 1e-9);
+		assertEquals(0.7, sharing.getMeanScore(), 1e-9);
+		assertEquals(2, sharing.getClauseCount());
+
+		assertEquals(4, profile.getClauseCount());
+		assertEquals(0.9, profile.getMaxScore(), 1e-9);
+		assertEquals(1, profile.getRiskBands().get("high"));
+		assertEquals(1, profile.getRiskBands().get("medium"));
+		assertEquals(1, profile.getRiskBands().get("low"));
+		assertEquals(1, profile.getRiskBands().get("minimal"));
+	}
+
+	@Test
+	void firedRulesRoundTripThroughStoredBytes() {
+		BitSet fired = new BitSet();
+		fired.set(0);
+		fired.set(23);
+		fired.set(45);
+
+		DocumentRiskProfile profile = new DocumentRiskProfile(1L, "policy.txt");
+		profile.setFiredRuleSet(fired);
+
+		assertEquals(fired, BitSet.valueOf(profile.getFiredRules()));
+		assertEquals(fired, profile.getFiredRuleSet());
+	}
+}
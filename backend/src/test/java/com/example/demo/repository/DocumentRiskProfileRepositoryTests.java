@@ -0,0 +1,86 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Document;
+import com.example.demo.entity.DocumentRiskProfile;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class DocumentRiskProfileRepositoryTests {
+
+	@Autowired
+	private DocumentRiskProfileRepository riskProfileRepository;
+
+	@Autowired
+	private DocumentRepository documentRepository;
+
+	@Test
+	void rankingCoversWholeCorpusOrderedByCategoryRisk() {
+		riskProfileRepository.save(profile(1L, "Data Sharing", 0.6, 0.6));
+		riskProfileRepository.save(profile(2L, "Data Sharing", 0.9, 0.3));
+		riskProfileRepository.save(profile(3L, "Payment Terms", 0.95));
+		riskProfileRepository.save(profile(4L, "Data Sharing", 0.9, 0.8));
+
+		List<DocumentRiskProfileRepository.CategoryRanking> ranking =
+			riskProfileRepository.rankByCategory("Data Sharing", PageRequest.of(0, 10));
+
+		// Ties on max break on mean; a document with no clause in the category ranks last with zero risk
+		assertEquals(List.of(4L, 2L, 1L, 3L), ranking.stream().map(DocumentRiskProfileRepository.CategoryRanking::getDocumentId).toList());
+		assertEquals(0.9, ranking.get(0).getMaxScore(), 1e-9);
+		assertEquals(0.85, ranking.get(0).getMeanScore(), 1e-9);
+		assertEquals(2, ranking.get(0).getClauseCount());
+		assertEquals(0.0, ranking.get(3).getMaxScore(), 1e-9);
+		assertEquals(0, ranking.get(3).getClauseCount());
+	}
+
+	@Test
+	void rankingHonoursLimit() {
+		riskProfileRepository.save(profile(1L, "Data Sharing", 0.6));
+		riskProfileRepository.save(profile(2L, "Data Sharing", 0.9));
+
+		assertEquals(1, riskProfileRepository.rankByCategory("Data Sharing", PageRequest.of(0, 1)).size());
+	}
+
+	@Test
+	void findsProfilesWithCategoriesByDocumentIds() {
+		riskProfileRepository.save(profile(1L, "Data Sharing", 0.6));
+		riskProfileRepository.save(profile(2L, "Payment Terms", 0.9));
+		riskProfileRepository.save(profile(3L, "Payment Terms", 0.4));
+
+		List<DocumentRiskProfile> profiles = riskProfileRepository.findByDocumentIdIn(List.of(1L, 3L));
+
+		assertEquals(2, profiles.size());
+		assertEquals(1, profiles.stream().filter(p -> p.getCategoryRisks().containsKey("Payment Terms")).count());
+	}
+
+	@Test
+	void backfillQueryPagesThroughUnprofiledDocumentsById() {
+		Document profiled = documentRepository.save(new Document("profiled.txt", "content"));
+		Document first = documentRepository.save(new Document("first.txt", "content"));
+		Document second = documentRepository.save(new Document("second.txt", "content"));
+		riskProfileRepository.save(new DocumentRiskProfile(profiled.getId(), profiled.getFilename()));
+
+		List<DocumentRepository.DocumentSummary> batch = documentRepository.findWithoutRiskProfile(0L, PageRequest.of(0, 1));
+		assertEquals(List.of(first.getId()), batch.stream().map(DocumentRepository.DocumentSummary::getId).toList());
+		assertEquals("first.txt", batch.get(0).getFilename());
+
+		batch = documentRepository.findWithoutRiskProfile(first.getId(), PageRequest.of(0, 1));
+		assertEquals(List.of(second.getId()), batch.stream().map(DocumentRepository.DocumentSummary::getId).toList());
+
+		assertEquals(List.of(), documentRepository.findWithoutRiskProfile(second.getId(), PageRequest.of(0, 1)));
+	}
+
+	private static DocumentRiskProfile profile(Long documentId, String category, double... scores) {
+		DocumentRiskProfile profile = new DocumentRiskProfile(documentId, "doc-" + documentId);
+		for (double score : scores) {
+			profile.addClause(category, score);
+		}
+		return profile;
+	}
+}
@@ -0,0 +1,57 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecentWriteTrackerTests {
+
+	@Test
+	void documentIsRecentWithinWindow() {
+		RecentWriteTracker tracker = trackerWithWindow(10000L);
+		tracker.recordWrite(1L);
+
+		assertTrue(tracker.isRecentlyWritten(1L));
+		assertFalse(tracker.isRecentlyWritten(2L));
+	}
+
+	@Test
+	void writesExpireOnceWindowHasPassed() {
+		// A zero window expires every write the moment it is recorded
+		RecentWriteTracker tracker = trackerWithWindow(0L);
+		long writtenAt = tracker.recordWrite(1L);
+
+		assertFalse(tracker.isRecentlyWritten(1L));
+		assertFalse(tracker.isWithinWindow(writtenAt));
+	}
+
+	@Test
+	void timestampsAreComparedAgainstWindow() {
+		RecentWriteTracker tracker = trackerWithWindow(10000L);
+		long now = System.currentTimeMillis();
+
+		assertTrue(tracker.isWithinWindow(now - 1000));
+		assertFalse(tracker.isWithinWindow(now - 20000));
+		assertFalse(tracker.isWithinWindow(now + 20000));
+	}
+
+	@Test
+	void expiredEntriesArePrunedOnNextWrite() {
+		RecentWriteTracker tracker = trackerWithWindow(10000L);
+		tracker.recordWrite(1L);
+		ReflectionTestUtils.setField(tracker, "windowMillis", 0L);
+		tracker.recordWrite(2L);
+		ReflectionTestUtils.setField(tracker, "windowMillis", 10000L);
+
+		// Entry 1 was dropped while the window was zero, even though it would be recent again now
+		assertFalse(tracker.isRecentlyWritten(1L));
+	}
+
+	private RecentWriteTracker trackerWithWindow(long windowMillis) {
+		RecentWriteTracker tracker = new RecentWriteTracker();
+		ReflectionTestUtils.setField(tracker, "windowMillis", windowMillis);
+		return tracker;
+	}
+}
@@ -0,0 +1,133 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Clause;
+import com.example.demo.entity.DocumentRiskProfile;
+import com.example.demo.repository.ClauseRepository;
+import com.example.demo.repository.DocumentRepository;
+import com.example.demo.repository.DocumentRiskProfileRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RiskProfileServiceTests {
+
+	@Mock
+	private DocumentRiskProfileRepository riskProfileRepository;
+
+	@Mock
+	private DocumentRepository documentRepository;
+
+	@Mock
+	private ClauseRepository clauseRepository;
+
+	@Spy
+	private TextAnalysisService textAnalysisService;
+
+	@InjectMocks
+	private RiskProfileService riskProfileService;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(riskProfileService, "backfillEnabled", true);
+		ReflectionTestUtils.setField(riskProfileService, "backfillBatchSize", 2);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void compareFindsCommonAndUniqueRulesAndRiskiestDocuments() {
+		// Bits: 0 sell_data_or_information, 15 cookies, 23 cannot_opt_out, 32 arbitration
+		DocumentRiskProfile first = profile(1L, Map.of("Data Sharing", 0.9, "Legal & Disputes", 0.4), 0, 15);
+		DocumentRiskProfile second = profile(2L, Map.of("Data Sharing", 0.6, "Tracking & Analytics", 0.5), 0, 15, 23);
+		DocumentRiskProfile third = profile(3L, Map.of("Legal & Disputes", 0.8), 0, 32);
+		when(riskProfileRepository.findByDocumentIdIn(List.of(3L, 1L, 2L))).thenReturn(List.of(first, second, third));
+
+		Map<String, Object> comparison = riskProfileService.compare(List.of(3L, 1L, 2L));
+
+		assertEquals(List.of("sell_data_or_information"), comparison.get("commonRules"));
+
+		List<Map<String, Object>> documents = (List<Map<String, Object>>) comparison.get("documents");
+		assertEquals(List.of(3L, 1L, 2L), documents.stream().map(d -> d.get("documentId")).toList());
+		assertEquals(List.of("arbitration"), documents.get(0).get("uniqueRules"));
+		assertEquals(List.of(), documents.get(1).get("uniqueRules"));
+		assertEquals(List.of("cannot_opt_out"), documents.get(2).get("uniqueRules"));
+
+		Map<String, Map<String, Object>> riskiest = (Map<String, Map<String, Object>>) comparison.get("riskiestByCategory");
+		assertEquals(1L, riskiest.get("Data Sharing").get("documentId"));
+		assertEquals(3L, riskiest.get("Legal & Disputes").get("documentId"));
+		assertEquals(2L, riskiest.get("Tracking & Analytics").get("documentId"));
+		assertEquals(List.of("Data Sharing", "Legal & Disputes", "Tracking & Analytics"),
+			List.copyOf((Collection<String>) comparison.get("categories")));
+	}
+
+	@Test
+	void compareRejectsDocumentsWithoutProfile() {
+		when(riskProfileRepository.findByDocumentIdIn(List.of(1L, 9L)))
+			.thenReturn(List.of(profile(1L, Map.of("Data Sharing", 0.9), 0)));
+
+		NoSuchElementException e = assertThrows(NoSuchElementException.class,
+			() -> riskProfileService.compare(List.of(1L, 9L)));
+		assertEquals("No risk profile for documents [9]", e.getMessage());
+	}
+
+	@Test
+	void backfillContinuesPastFailingDocuments() {
+		DocumentRepository.DocumentSummary racing = summary(1L);
+		DocumentRepository.DocumentSummary broken = summary(2L);
+		DocumentRepository.DocumentSummary healthy = summary(3L);
+		when(documentRepository.findWithoutRiskProfile(eq(0L), any(Pageable.class))).thenReturn(List.of(racing, broken));
+		when(documentRepository.findWithoutRiskProfile(eq(2L), any(Pageable.class))).thenReturn(List.of(healthy));
+		when(documentRepository.findWithoutRiskProfile(eq(3L), any(Pageable.class))).thenReturn(List.of());
+		when(clauseRepository.findByDocumentIdOrderByRiskScoreDesc(anyLong())).thenReturn(List.<Clause>of());
+		when(riskProfileRepository.save(any(DocumentRiskProfile.class)))
+			.thenThrow(new DataIntegrityViolationException("duplicate document_id"))
+			.thenThrow(new IllegalStateException("connection reset"))
+			.thenAnswer(invocation -> invocation.getArgument(0));
+
+		riskProfileService.backfillMissingProfiles();
+
+		verify(riskProfileRepository, times(3)).save(any(DocumentRiskProfile.class));
+		verify(clauseRepository).findByDocumentIdOrderByRiskScoreDesc(3L);
+	}
+
+	private static DocumentRiskProfile profile(Long documentId, Map<String, Double> categoryScores, int... rules) {
+		DocumentRiskProfile profile = new DocumentRiskProfile(documentId, "doc-" + documentId);
+		categoryScores.forEach(profile::addClause);
+		BitSet fired = new BitSet();
+		for (int rule : rules) {
+			fired.set(rule);
+		}
+		profile.setFiredRuleSet(fired);
+		return profile;
+	}
+
+	private static DocumentRepository.DocumentSummary summary(Long id) {
+		DocumentRepository.DocumentSummary summary = mock(DocumentRepository.DocumentSummary.class);
+		when(summary.getId()).thenReturn(id);
+		when(summary.getFilename()).thenReturn("doc-" + id);
+		return summary;
+	}
+}
@@ -0,0 +1,73 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Clause;
+import com.example.demo.entity.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextAnalysisServiceTests {
+
+	private final TextAnalysisService analysis = new TextAnalysisService();
+
+	// Stored risk profiles depend on these positions; a failure here means existing rows would be relabelled
+	@Test
+	void ruleBitsArePinnedToNames() {
+		assertEquals(List.of("sell_data_or_information"), namesOf(0));
+		assertEquals(List.of("cannot_opt_out_combined"), namesOf(1));
+		assertEquals(List.of("collect_personal_data"), namesOf(2));
+		assertEquals(List.of("sell_information"), namesOf(4));
+		assertEquals(List.of("cookies"), namesOf(15));
+		assertEquals(List.of("cannot_opt_out"), namesOf(23));
+		assertEquals(List.of("arbitration"), namesOf(32));
+		assertEquals(List.of("without_notice"), namesOf(39));
+		assertEquals(List.of("early_termination"), namesOf(45));
+	}
+
+	@Test
+	void firedRulesSetTheirPinnedBits() {
+		BitSet fired = analysis.findFiredRules("We may sell your information and you cannot opt out");
+
+		assertTrue(fired.get(0));
+		assertTrue(fired.get(1));
+		assertTrue(fired.get(4));
+		assertTrue(fired.get(23));
+		assertEquals(4, fired.cardinality());
+	}
+
+	@Test
+	void clauseScoreAndFiredRulesComeFromTheSameMatch() {
+		Document document = new Document("policy.txt",
+			"Our partners place cookies in your browser. We may sell your information and you cannot opt out of this.");
+
+		List<Clause> clauses = analysis.analyzeDocument(document);
+
+		assertEquals(2, clauses.size());
+		// sell_information (0.95) plus cannot_opt_out: max, plus 0.1 per extra rule, capped at 1.0
+		assertEquals(1.0, clauses.get(0).getRiskScore(), 1e-9);
+		assertEquals(List.of("sell_data_or_information", "cannot_opt_out_combined", "sell_information", "cannot_opt_out"),
+			analysis.getRuleNames(clauses.get(0).getFiredRules()));
+		// cookies alone
+		assertEquals(0.6, clauses.get(1).getRiskScore(), 1e-9);
+		assertEquals(List.of("cookies"), analysis.getRuleNames(clauses.get(1).getFiredRules()));
+
+		for (Clause clause : clauses) {
+			assertEquals(analysis.findFiredRules(clause.getClauseText()), clause.getFiredRules());
+		}
+	}
+
+	@Test
+	void unknownBitsHaveNoName() {
+		assertEquals(List.of(), namesOf(1000));
+	}
+
+	private List<String> namesOf(int bit) {
+		BitSet rules = new BitSet();
+		rules.set(bit);
+		return analysis.getRuleNames(rules);
+	}
+}
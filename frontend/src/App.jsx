@@ -1,4 +1,4 @@
-import React, { useState, useEffect } from "react";
+import React, { useState, useEffect, useRef } from "react";
 
 const API_BASE_URL =
   import.meta.env.VITE_API_BASE_URL ||
@@ -33,6 +33,11 @@ export default function App() {
   const [error, setError] = useState("");
   const [stats, setStats] = useState(null);
   const [currentDocumentStats, setCurrentDocumentStats] = useState(null);
+  // Write time from the last upload/paste; echoed back so our reads see our own writes
+  const lastWriteAt = useRef(null);
+
+  const readHeaders = () =>
+    lastWriteAt.current ? { "X-Last-Write-At": String(lastWriteAt.current) } : {};
 
   // Filter for high-risk clauses whenever the main 'clauses' state changes
   useEffect(() => {
@@ -47,7 +52,7 @@ export default function App() {
   const fetchStats = async () => {
     try {
       // const res = await fetch("/api/documents/stats");
-      const res = await fetch(`${API_BASE_URL}/api/documents/stats`);
+      const res = await fetch(`${API_BASE_URL}/api/documents/stats`, { headers: readHeaders() });
 
       if (res.ok) {
         const data = await res.json();
@@ -94,6 +99,7 @@ export default function App() {
         throw new Error(data.error || "Upload failed");
       }
       
+      lastWriteAt.current = data.writtenAt;
       setDocId(data.documentId);
       setCurrentDocumentStats({
         totalClauses: data.clausesFound,
@@ -143,6 +149,7 @@ export default function App() {
         throw new Error(data.error || "Processing failed");
       }
       
+      lastWriteAt.current = data.writtenAt;
       setDocId(data.documentId);
       setCurrentDocumentStats({
         totalClauses: data.clausesFound,
@@ -166,7 +173,7 @@ export default function App() {
   const fetchClauses = async (id) => {
     try {
       // const res = await fetch(`/api/documents/${id}/clauses`);
-      const res = await fetch(`${API_BASE_URL}/api/documents/${id}/clauses`);
+      const res = await fetch(`${API_BASE_URL}/api/documents/${id}/clauses`, { headers: readHeaders() });
       if (res.ok) {
         const list = await res.json();
         setClauses(list);